@@ -2,9 +2,10 @@
  * This file holds the Graph class which helps create the Graph structure with Edge objects and vertices
  */
 
+import java.nio.IntBuffer;
 import java.util.*;
 
-public class Graph {
+public class Graph implements GraphStore {
 
     int edgeNum;
     List<Edge>[] nodes;
@@ -16,4 +17,39 @@ public class Graph {
         this.edgeNum = edgeNum;
         this.edges = new ArrayList<>();
     }
+
+    @Override
+    public int nodeNum() {
+        return nodes.length;
+    }
+
+    @Override
+    public int degree(int v) {
+        return nodes[v].size();
+    }
+
+    @Override
+    public int neighbor(int v, int k) {
+        return nodes[v].get(k).otherNode(v);
+    }
+
+    @Override
+    public VertexState newState() {
+        final boolean[] state = new boolean[nodes.length];
+        return new VertexState() {
+            @Override
+            public boolean get(int v) {
+                return state[v];
+            }
+            @Override
+            public void set(int v, boolean value) {
+                state[v] = value;
+            }
+        };
+    }
+
+    @Override
+    public VertexList newList() {
+        return new VertexList(IntBuffer.allocate(nodes.length));
+    }
 }
@@ -0,0 +1,15 @@
+/*
+ * This file holds the GraphStore interface which is the narrow read-only view of the graph used by the solvers.
+ * Graph implements it on top of the Edge lists, OffHeapGraph implements it on top of direct buffers.
+ */
+
+public interface GraphStore {
+    int nodeNum();
+    int degree(int v);
+    //the k-th neighbor of vertex v, 0 <= k < degree(v)
+    int neighbor(int v, int k);
+    //per-vertex in/out state for a solver, stored next to the graph
+    VertexState newState();
+    //list of up to nodeNum() vertices for a solver, stored next to the graph
+    VertexList newList();
+}
@@ -1,6 +1,6 @@
 /*
 * This file performs local search (LS1) on the given datasets using the FastVC algorithm.
-* It takes in the data parsed in the form of a graph containing edge objects, the cutoff time and a random seed.
+* It takes in the graph through the GraphStore interface (heap Edge lists or OffHeapGraph), the cutoff time and a random seed.
 * It starts with finding an initial Vertex Cover(IVC) by checking all edges if at least one of their ends is in IVC
 * If not, put the vertex with higher degree into the IVC.
 * */
@@ -15,10 +15,10 @@
 import java.util.*;
 
 public class LS1 implements Solver{
-    Graph graph;
-    List<Integer> bestVC = null; //store the solution found by LS1
+    GraphStore graph;
+    VertexList bestVC = null; //store the solution found by LS1
     List<String> trace = null;  //store trace for trace file
-    public LS1(Graph graph, double cutoff, int seed){
+    public LS1(GraphStore graph, double cutoff, int seed){
         this.graph = graph;
         trace =new ArrayList<>();
         solve(cutoff, seed);
@@ -27,11 +27,13 @@ public class LS1 implements Solver{
     public void solve(double cutoff, int seed) {
      //  start to construct IVC and count time
         long startTime = System.currentTimeMillis();
-        boolean[] currState = ConstructIVC();
-        List<Integer> currVC = new ArrayList<>();
+        VertexState currState = ConstructIVC();
+        VertexList currVC = graph.newList();
+        VertexList best = graph.newList(); //preallocated, so an improvement copies into it instead of allocating
+        bestVC = null;
         //store the IVC results into currVC as current vertex cover
-        for (int i = 0; i < currState.length; i++) {
-            if (currState[i])
+        for (int i = 0; i < graph.nodeNum(); i++) {
+            if (currState.get(i))
                 currVC.add(i);
         }
         long elapsedmili;
@@ -40,27 +42,26 @@ public class LS1 implements Solver{
         //before cutoff time, start local search procedure
         while (elapsed < cutoff) {
             //check the current solution is a vertex cover
-            if (uncoveredEdge(currState).isEmpty()) {
+            if (!hasUncoveredEdge(currState)) {
                 if(bestVC==null || currVC.size()< bestVC.size()){
-                    bestVC = new ArrayList<>(currVC);
+                    best.copyFrom(currVC);
+                    bestVC = best;
                     double duration = (System.currentTimeMillis() - startTime)/1000.000000;
                     trace.add("" + duration + "," + bestVC.size()); //record into trace every time a better solution is found
                 }
                 //delete a vertex using random seed
                 int randomInt = deleteRand(seed, currVC); 
                 int randVertex = currVC.get(randomInt);
-                currState[randVertex] = false;
-                currVC.remove(randomInt);
+                currState.set(randVertex, false);
+                currVC.removeAt(randomInt);
             }
             //delete the vertex with minimum loss
             int minLossVertex = findMinLoss(currState);
-            currState[minLossVertex] = false;
-            currVC.remove((Object) minLossVertex);
-            //update uncovered edges
-            Set<Edge> currUnEdge = uncoveredEdge(currState);
+            currState.set(minLossVertex, false);
+            currVC.removeVertex(minLossVertex);
             //add a vertex back to the current solution which covers the most edges that are uncovered yet
-            int hVertex = addVertex(currUnEdge, currState);
-            currState[hVertex] = true;
+            int hVertex = addVertex(currState);
+            currState.set(hVertex, true);
             currVC.add(hVertex);
             elapsedmili = System.currentTimeMillis() - startTime;
             elapsed = elapsedmili;
@@ -70,14 +71,14 @@ public class LS1 implements Solver{
     }
     @Override
     public List<Integer> getResult() {
-            return bestVC;
+            return bestVC == null ? null : bestVC.toList();
     }
     @Override
     public List<String> getTrace() {
         return trace;
     }
     //generate a random number with the given seed, to decide one vertex in the current VC to delete
-    public int deleteRand(int seed, List<Integer> currVC){
+    public int deleteRand(int seed, VertexList currVC){
         int l = currVC.size();
         Random rand = new Random(seed);
         int randomInt = rand.nextInt(l);
@@ -86,15 +87,15 @@ public class LS1 implements Solver{
 
     //loss function as one of the scoring functions, which is the number of covered edges that would become uncovered by removing this vertex
     //return the vertex in the current VC with minimum loss
-    public int findMinLoss(boolean[] currState){
+    public int findMinLoss(VertexState currState){
         int delete = 0;
         int minLoss = Integer.MAX_VALUE;
 
-        for(int i = 0; i < currState.length; i++){
+        for(int i = 0; i < graph.nodeNum(); i++){
             int loss = 0;
-            if(currState[i]){
-                for(Edge edge : graph.nodes[i]){
-                    if(!currState[edge.otherNode(i)]){
+            if(currState.get(i)){
+                for(int k = 0; k < graph.degree(i); k++){
+                    if(!currState.get(graph.neighbor(i, k))){
                         loss++;
                     }
                 }
@@ -107,38 +108,31 @@ public class LS1 implements Solver{
         return delete;
     }
 
-//the edges not in the current vertex cover
-    //also used to check if the curr_VC is VC, uncoveredEdge.isEmpty()
-    public Set<Edge> uncoveredEdge(boolean[] currState){
-        Set<Edge> uncoveredEdge = new HashSet<>();
-        for(int i = 0; i < currState.length; i++) {
-
-            if (!currState[i]) {
-                for(Edge edge:graph.nodes[i]){
-                    int v = edge.otherNode(i);
-                    if(!currState[v]){
-                        List<Edge> neighbors = graph.nodes[i];
-                        int j = 0;
-                        while(j < neighbors.size() && neighbors.get(j).otherNode(i) != v) {
-                            j++;
-                        }
-                        Edge unEdge = neighbors.get(j);
-                        uncoveredEdge.add(unEdge);
+//an edge is uncovered when neither of its ends is in the current vertex cover
+    //used to check if the curr_VC is VC, without collecting the uncovered edges into a set
+    public boolean hasUncoveredEdge(VertexState currState){
+        for(int i = 0; i < graph.nodeNum(); i++) {
+            if (!currState.get(i)) {
+                for(int k = 0; k < graph.degree(i); k++){
+                    if(!currState.get(graph.neighbor(i, k))){
+                        return true;
                     }
                 }
             }
         }
-        return uncoveredEdge;
+        return false;
     }
 //find the vertex with highest degree in the uncovered edges, which means choosing it will cover the most uncovered edges
-    public int addVertex(Set uncoveredEdge, boolean[] currState){
+    //for a vertex outside the VC, an edge is uncovered exactly when the other end is outside the VC too
+    //a neighbor repeated in the graph file is counted once per entry here
+    public int addVertex(VertexState currState){
         int hDegree = Integer.MIN_VALUE;
         int addVertex = 0;
-        for(int i = 0; i < currState.length; i++){
+        for(int i = 0; i < graph.nodeNum(); i++){
             int degree = 0;
-            if(!currState[i]){
-                for(Edge edge : graph.nodes[i]){
-                    if(uncoveredEdge.contains(edge)){
+            if(!currState.get(i)){
+                for(int k = 0; k < graph.degree(i); k++){
+                    if(!currState.get(graph.neighbor(i, k))){
                         degree++;
                     }
                 }
@@ -152,27 +146,22 @@ public class LS1 implements Solver{
     }
 
 
-    private boolean[] ConstructIVC (){
+    private VertexState ConstructIVC (){
         //initialize with all vertices not in the IVC
-        boolean[] nodeState = new boolean[graph.nodes.length];
-        for(int i=0; i < graph.nodes.length; i++){
-            nodeState[i] = false;
-        }
-        //compute the derees for all vertices
-        Map<Integer, Integer> nodeDegrees = new HashMap<>(graph.nodes.length);
-        for (int i = 0; i < graph.nodes.length; i++) {
-            nodeDegrees.put(i, (graph.nodes[i].size()));
+        VertexState nodeState = graph.newState();
+        for(int i=0; i < graph.nodeNum(); i++){
+            nodeState.set(i, false);
         }
 //foreach e in E do
         //if e is uncovered then add the endpoint with higher degree into ivc
-        for(int i = 0; i < graph.nodes.length; i++){
-            for(Edge edge : graph.nodes[i]){
-                int v = edge.otherNode(i);
-                if(!nodeState[i] && !nodeState[v]){
-                    if(nodeDegrees.get(i) >= nodeDegrees.get(v)){
-                        nodeState[i] = true;
+        for(int i = 0; i < graph.nodeNum(); i++){
+            for(int k = 0; k < graph.degree(i); k++){
+                int v = graph.neighbor(i, k);
+                if(!nodeState.get(i) && !nodeState.get(v)){
+                    if(graph.degree(i) >= graph.degree(v)){
+                        nodeState.set(i, true);
                     }else{
-                        nodeState[v] = true;
+                        nodeState.set(v, true);
                     }
                 }
             }
@@ -0,0 +1,70 @@
+/*
+ * This file holds the OffHeapGraph class which keeps the adjacency of a graph outside of the Java heap.
+ * The neighbors are packed in compressed sparse row form: offsets[v] .. offsets[v + 1] index into adjacency.
+ * Both arrays and the solver's per-vertex state and vertex lists are direct buffers, so a large instance only needs
+ * a small heap. Only small objects are still allocated on the heap during a search (trace lines, LS1's Random).
+ * Direct buffers are limited by -XX:MaxDirectMemorySize, which defaults to the -Xmx value.
+ * It is filled straight from the graph file by RunExperiments.parseOffHeapGraph, without building a Graph first.
+ */
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+public class OffHeapGraph implements GraphStore {
+
+    int nodeNum;
+    IntBuffer offsets;
+    IntBuffer adjacency;
+
+    OffHeapGraph(int nodeNum, IntBuffer offsets, IntBuffer adjacency) {
+        this.nodeNum = nodeNum;
+        this.offsets = offsets;
+        this.adjacency = adjacency;
+    }
+
+    static IntBuffer allocateInts(int size) {
+        int bytes;
+        try {
+            bytes = Math.multiplyExact(size, Integer.BYTES);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Too many entries for one direct buffer: " + size, e);
+        }
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+
+    @Override
+    public int nodeNum() {
+        return nodeNum;
+    }
+
+    @Override
+    public int degree(int v) {
+        return offsets.get(v + 1) - offsets.get(v);
+    }
+
+    @Override
+    public int neighbor(int v, int k) {
+        return adjacency.get(offsets.get(v) + k);
+    }
+
+    @Override
+    public VertexState newState() {
+        final ByteBuffer state = ByteBuffer.allocateDirect(nodeNum);
+        return new VertexState() {
+            @Override
+            public boolean get(int v) {
+                return state.get(v) != 0;
+            }
+            @Override
+            public void set(int v, boolean value) {
+                state.put(v, (byte) (value ? 1 : 0));
+            }
+        };
+    }
+
+    @Override
+    public VertexList newList() {
+        return new VertexList(allocateInts(nodeNum));
+    }
+}
@@ -6,11 +6,20 @@ CSE6140 project
  * It takes in the inputs, checks for the wrong inputs and throws exceptions.
  * It creates the PrintWriter objects to write both the solution and trace files.
  * It also parses the input and creates the Graph structure.
+ * With "-store offheap" (LS1 only) the graph file is read straight into direct buffers (see OffHeapGraph).
+ * After the run, the GC count and time and the peak heap during the solver call are printed to stderr,
+ * together with the direct buffer memory in use right after the solver call.
  */
 
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.PrintWriter;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.IntBuffer;
 import java.util.*;
 
 public class RunExperiments {
@@ -21,7 +30,7 @@ public class RunExperiments {
 			System.exit(1);
 		}
 
-		String inst = "", alg = "", time = "", seed = "";
+		String inst = "", alg = "", time = "", seed = "", store = "heap";
 		for (int i = 0; i < args.length; i = i + 2) {
 			if (args[i].equals("-inst"))
 				inst = args[i + 1];
@@ -31,6 +40,8 @@ public class RunExperiments {
 				time = args[i + 1];
 			if (args[i].equals("-seed"))
 				seed = args[i + 1];
+			if (args[i].equals("-store"))
+				store = args[i + 1];
 		}
 		if (alg.equals("") || inst.equals("") || time.equals("")) {
 			System.out.println("Incorrect input");
@@ -40,6 +51,14 @@ public class RunExperiments {
 			System.out.println("Seed is required for local search to run");
 			System.exit(0);
 		}
+		if (!store.equals("heap") && !store.equals("offheap")) {
+			System.out.println("Store must be heap or offheap");
+			System.exit(0);
+		}
+		if (store.equals("offheap") && !alg.equals("LS1")) {
+			System.out.println("Offheap store is only supported by LS1");
+			System.exit(0);
+		}
 
 		String output_sol = "", output_trace = "";
 		int end = inst.indexOf(".graph");
@@ -54,18 +73,37 @@ public class RunExperiments {
 
 		PrintWriter sol_writer = new PrintWriter(output_sol, "UTF-8");
 		PrintWriter trace_writer = new PrintWriter(output_trace, "UTF-8");
-		Graph G = parseGraph(inst);
+		Graph G = null;
+		GraphStore graph;
+		if (store.equals("offheap")) {
+			graph = parseOffHeapGraph(inst);
+		} else {
+			G = parseGraph(inst);
+			graph = G;
+		}
 		Solver solver = null;
 
+		// measure only the solver call, not the parsing before it
+		long gcCountBefore = gcCount(), gcTimeBefore = gcTime();
+		resetPeakHeap();
 		if (alg.equals("Approx")) {
 			solver = new Heuristic(G, Double.parseDouble(time));
 		} else if (alg.equals("BnB")) {
 			solver = new Bnb(G, Double.parseDouble(time));
 		} else if (alg.equals("LS1")) {
-			solver = new LS1(G, Double.parseDouble(time) * 1000, Integer.parseInt(seed));
+			solver = new LS1(graph, Double.parseDouble(time) * 1000, Integer.parseInt(seed));
 		} else if (alg.equals("LS2")) {
 			solver = new LS2(G, Double.parseDouble(time) * 1000, Integer.parseInt(seed), output_trace);
 		}
+		long searchGcCount = gcCount() - gcCountBefore, searchGcTime = gcTime() - gcTimeBefore;
+		long searchPeakHeap = peakHeap();
+		long directCount = 0, directUsed = 0; // read here, while the solver's buffers are still reachable
+		for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+			if (pool.getName().equals("direct")) {
+				directCount = pool.getCount();
+				directUsed = pool.getMemoryUsed();
+			}
+		}
 		if (solver == null) System.exit(1);
 
 		List<Integer> res = solver.getResult();
@@ -89,6 +127,40 @@ public class RunExperiments {
 		sol_writer.println(sb.toString());
 		sol_writer.close();
 		trace_writer.close();
+		long mb = 1024 * 1024;
+		System.err.println("Search GC count: " + searchGcCount + ", GC time: " + searchGcTime / 1000.0 + " s");
+		System.err.println("Search peak heap: " + searchPeakHeap / mb + " MB, max heap: "
+				+ ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getMax() / mb + " MB");
+		System.err.println("Direct buffers after search: " + directCount + ", used: " + directUsed / mb + " MB");
+	}
+
+	static long gcCount() {
+		long count = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+			count += Math.max(gc.getCollectionCount(), 0);
+		return count;
+	}
+
+	static long gcTime() {
+		long time = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+			time += Math.max(gc.getCollectionTime(), 0);
+		return time;
+	}
+
+	static void resetPeakHeap() {
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+			if (pool.getType() == MemoryType.HEAP)
+				pool.resetPeakUsage();
+	}
+
+	// sum of the per-pool peaks, an upper bound of the heap in use since resetPeakHeap()
+	static long peakHeap() {
+		long peak = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+			if (pool.getType() == MemoryType.HEAP)
+				peak += pool.getPeakUsage().getUsed();
+		return peak;
 	}
 
 	static Graph parseGraph(String graph_file) throws Exception {
@@ -122,4 +194,64 @@ public class RunExperiments {
 		br.close();
 		return G;
 	}
-}
\ No newline at end of file
+
+	// reads the same file format as parseGraph into an OffHeapGraph, in two passes so no Edge objects are created:
+	// the first pass counts the degrees, the second one writes the neighbors in the same order as parseGraph,
+	// using offsets[v] as the next free slot of v and shifting the offsets back afterwards
+	static OffHeapGraph parseOffHeapGraph(String graph_file) throws Exception {
+		BufferedReader br = new BufferedReader(new FileReader(graph_file));
+		String[] split = br.readLine().split(" ");
+		int nodeNum = Integer.parseInt(split[0]);
+		IntBuffer offsets = allocateDirectInts(nodeNum + 1);
+		String line;
+		int lineIndex = 0;
+		while ((line = br.readLine()) != null) { // degree of v is counted at offsets[v + 1]
+			for (String neighborS : line.split(" ")) {
+				if (neighborS.equals("")) continue;
+				int neighbor = Integer.parseInt(neighborS) - 1;
+				if (neighbor > lineIndex) {
+					offsets.put(lineIndex + 1, offsets.get(lineIndex + 1) + 1);
+					offsets.put(neighbor + 1, offsets.get(neighbor + 1) + 1);
+				}
+			}
+			lineIndex++;
+		}
+		br.close();
+		for (int i = 0; i < nodeNum; i++)
+			offsets.put(i + 1, Math.addExact(offsets.get(i + 1), offsets.get(i)));
+
+		IntBuffer adjacency = allocateDirectInts(offsets.get(nodeNum));
+		br = new BufferedReader(new FileReader(graph_file));
+		br.readLine();
+		lineIndex = 0;
+		while ((line = br.readLine()) != null) {
+			for (String neighborS : line.split(" ")) {
+				if (neighborS.equals("")) continue;
+				int neighbor = Integer.parseInt(neighborS) - 1;
+				if (neighbor > lineIndex) {
+					adjacency.put(offsets.get(lineIndex), neighbor);
+					offsets.put(lineIndex, offsets.get(lineIndex) + 1);
+					adjacency.put(offsets.get(neighbor), lineIndex);
+					offsets.put(neighbor, offsets.get(neighbor) + 1);
+				}
+			}
+			lineIndex++;
+		}
+		br.close();
+		for (int i = nodeNum - 1; i > 0; i--) // offsets[v] now points at the start of v + 1
+			offsets.put(i, offsets.get(i - 1));
+		offsets.put(0, 0);
+		return new OffHeapGraph(nodeNum, offsets, adjacency);
+	}
+
+	static IntBuffer allocateDirectInts(int size) {
+		try {
+			return OffHeapGraph.allocateInts(size);
+		} catch (OutOfMemoryError e) {
+			System.err.println("Not enough direct buffer memory for the offheap graph (" + e.getMessage() + ")");
+			System.err.println("Raise the limit with -XX:MaxDirectMemorySize, it defaults to the -Xmx value");
+			System.exit(1);
+			return null;
+		}
+	}
+}
@@ -0,0 +1,63 @@
+/*
+ * This file holds the VertexList class which is a list of vertex ids backed by an IntBuffer of fixed capacity.
+ * It is created by GraphStore.newList(), so for OffHeapGraph the list lives in a direct buffer as well.
+ * Removing keeps the order of the remaining vertices, like ArrayList.remove does.
+ */
+
+import java.nio.IntBuffer;
+import java.util.*;
+
+public class VertexList {
+
+    IntBuffer items;
+    int size;
+
+    public VertexList(IntBuffer items) {
+        this.items = items;
+        this.size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int get(int index) {
+        return items.get(index);
+    }
+
+    public void add(int v) {
+        items.put(size++, v);
+    }
+
+    public void removeAt(int index) {
+        for (int i = index + 1; i < size; i++) {
+            items.put(i - 1, items.get(i));
+        }
+        size--;
+    }
+
+    //remove the first occurrence of vertex v, if it is in the list
+    public void removeVertex(int v) {
+        for (int i = 0; i < size; i++) {
+            if (items.get(i) == v) {
+                removeAt(i);
+                return;
+            }
+        }
+    }
+
+    public void copyFrom(VertexList other) {
+        for (int i = 0; i < other.size; i++) {
+            items.put(i, other.items.get(i));
+        }
+        size = other.size;
+    }
+
+    public List<Integer> toList() {
+        List<Integer> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(items.get(i));
+        }
+        return list;
+    }
+}
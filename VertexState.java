@@ -0,0 +1,9 @@
+/*
+ * This file holds the VertexState interface which stores one boolean per vertex (e.g. whether it is in the current VC).
+ * It is created by GraphStore.newState() so the state lives on the same kind of storage as the graph.
+ */
+
+public interface VertexState {
+    boolean get(int v);
+    void set(int v, boolean value);
+}